@@ -0,0 +1,20 @@
+package io.github.derk.smoothdoors;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+/**
+ * Tunables read once from JVM system properties, e.g. {@code -Dsmoothdoors.stormTogglesPerSecond=6}.
+ */
+@Environment(value=EnvType.CLIENT)
+public final class DoorAnimConfig {
+    /** A door toggling more often than this within one second stops animating and flips instantly. */
+    public static final int STORM_TOGGLES_PER_SECOND = Integer.getInteger("smoothdoors.stormTogglesPerSecond", 4);
+    /** How long a storming door must stay untouched before it animates again. */
+    public static final long STORM_SETTLE_NANOS = Long.getLong("smoothdoors.stormSettleMillis", 1000L) * 1000000L;
+    /** Hard cap on simultaneously animating doors; when full the animation closest to finishing is evicted. */
+    public static final int MAX_TRACKED_ANIMATIONS = Integer.getInteger("smoothdoors.maxTrackedAnimations", 256);
+
+    private DoorAnimConfig() {
+    }
+}
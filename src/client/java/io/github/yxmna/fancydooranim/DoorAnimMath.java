@@ -8,27 +8,42 @@ import net.minecraft.util.math.Direction;
 @Environment(value=EnvType.CLIENT)
 public final class DoorAnimMath {
     public static final float DOOR_THICKNESS = 0.1875f;
+    private static final Pivot[] PIVOTS = new Pivot[Direction.values().length * 2];
+
+    static {
+        for (Direction facing : Direction.values()) {
+            PIVOTS[facing.ordinal() * 2] = computePivot(facing, DoorHinge.LEFT);
+            PIVOTS[facing.ordinal() * 2 + 1] = computePivot(facing, DoorHinge.RIGHT);
+        }
+    }
 
     private DoorAnimMath() {
     }
 
-    public static Inset lateralInsetTowardHinge(Direction facing, DoorHinge hinge, float angleDeg) {
-        float a = Math.abs(angleDeg);
-        float inset = DOOR_THICKNESS * (float)Math.sin(Math.toRadians(a));
-        Pivot p = hingePivot(facing, hinge);
-        float dx = 0.0f;
-        float dz = 0.0f;
-        switch (facing) {
-            case NORTH:
-            case SOUTH:
-                dx = p.x < 0.5f ? inset : -inset;
-                break;
-            case EAST:
-            case WEST:
-                dz = p.z < 0.5f ? inset : -inset;
-                break;
+    /**
+     * X offset that slides an opening door toward its hinge by the door's thickness, so the rotated
+     * panel stays inside the block.
+     */
+    public static float lateralInsetDx(Direction facing, DoorHinge hinge, float angleDeg) {
+        if (facing != Direction.NORTH && facing != Direction.SOUTH) {
+            return 0.0f;
+        }
+        float inset = insetAmount(angleDeg);
+        return hingePivot(facing, hinge).x < 0.5f ? inset : -inset;
+    }
+
+    /** Z counterpart of {@link #lateralInsetDx}. */
+    public static float lateralInsetDz(Direction facing, DoorHinge hinge, float angleDeg) {
+        if (facing != Direction.EAST && facing != Direction.WEST) {
+            return 0.0f;
         }
-        return new Inset(dx, dz);
+        float inset = insetAmount(angleDeg);
+        return hingePivot(facing, hinge).z < 0.5f ? inset : -inset;
+    }
+
+    private static float insetAmount(float angleDeg) {
+        float a = Math.abs(angleDeg);
+        return DOOR_THICKNESS * (float)Math.sin(Math.toRadians(a));
     }
 
     public static float targetAngleDeg(Direction facing, DoorHinge hinge, boolean opening) {
@@ -40,7 +55,12 @@ public final class DoorAnimMath {
         return hinge == DoorHinge.LEFT ? 1 : -1;
     }
 
+    /** Returns a shared instance; pivots are immutable and only depend on facing and hinge. */
     public static Pivot hingePivot(Direction facing, DoorHinge hinge) {
+        return PIVOTS[facing.ordinal() * 2 + (hinge == DoorHinge.LEFT ? 0 : 1)];
+    }
+
+    private static Pivot computePivot(Direction facing, DoorHinge hinge) {
         switch (facing) {
             case NORTH:
                 return hinge == DoorHinge.LEFT ? new Pivot(0.0f, 1.0f) : new Pivot(1.0f, 1.0f);
@@ -65,6 +85,26 @@ public final class DoorAnimMath {
         return 1.0f - u * u * u;
     }
 
+    public static float easeInverse01(float k) {
+        if (k <= 0.0f) {
+            return 0.0f;
+        }
+        if (k >= 1.0f) {
+            return 1.0f;
+        }
+        return 1.0f - (float)Math.cbrt(1.0f - k);
+    }
+
+    /**
+     * Start time at which an animation in the given direction would currently sit at {@code angleDeg},
+     * so a reversed swing continues from where the door is instead of snapping back.
+     */
+    public static long startNanosForAngle(boolean opening, float angleDeg, long nowNanos, long durationNanos) {
+        float f = Math.min(1.0f, Math.abs(angleDeg) / 90.0f);
+        float k = opening ? f : 1.0f - f;
+        return nowNanos - (long)(easeInverse01(k) * (float)durationNanos);
+    }
+
     public static float currentAngleDeg(Direction facing, DoorHinge hinge, boolean opening, long startNanos, long nowNanos, long durationNanos) {
         float t = (float)(nowNanos - startNanos) / (float)durationNanos;
         float k = ease01(t);
@@ -88,15 +128,4 @@ public final class DoorAnimMath {
             return "Pivot{x=" + x + ", z=" + z + "}";
         }
     }
-
-    @Environment(value=EnvType.CLIENT)
-    public static final class Inset {
-        public final float dx;
-        public final float dz;
-
-        public Inset(float dx, float dz) {
-            this.dx = dx;
-            this.dz = dz;
-        }
-    }
 }
@@ -1,5 +1,7 @@
 package io.github.derk.smoothdoors;
 
+import io.github.derk.smoothdoors.render.DoorVisibility;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.block.enums.DoorHinge;
@@ -12,11 +14,8 @@ import net.minecraft.block.BlockState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiConsumer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 
 @Environment(value=EnvType.CLIENT)
 public class DoorAnimationTracker {
@@ -24,80 +23,269 @@ public class DoorAnimationTracker {
     public static final long ANIM_DURATION_NANOS = 240000000L;
     public static final long REVEAL_LEAD_NANOS = 50000000L;
     private static final long DEDUPE_WINDOW_NANOS = 150000000L;
-    private static final Map<BlockPos, Entry> entries = new ConcurrentHashMap<>();
+    private static final long STORM_WINDOW_NANOS = 1000000000L;
+    private static final long EVICTION_REPORT_NANOS = 1000000000L;
+    private static final long OCCUPANCY_REPORT_NANOS = 5000000000L;
+    private static final int CAPACITY = Math.max(1, DoorAnimConfig.MAX_TRACKED_ANIMATIONS);
+    // Entries are written on the client thread; chunk builder threads read them through isDoorHiddenAt
+    private static final Object LOCK = new Object();
+    private static final Long2ObjectOpenHashMap<Entry> entries = new Long2ObjectOpenHashMap<>(CAPACITY);
+    private static final Entry[] pool = new Entry[CAPACITY];
+    private static final ArrayDeque<Entry> freeEntries = new ArrayDeque<>(CAPACITY);
+    private static final Long2ObjectOpenHashMap<ToggleRate> rates = new Long2ObjectOpenHashMap<>();
+    private static final ArrayList<ToggleRate> activeRates = new ArrayList<>();
+    private static final ArrayDeque<ToggleRate> freeRates = new ArrayDeque<>();
+    private static final Entry[] snapshot = new Entry[CAPACITY];
+    private static final BlockPos.Mutable rerenderPos = new BlockPos.Mutable();
+    private static long evictions = 0L;
+    private static long reportedEvictions = 0L;
+    private static long lastEvictionReportNanos = 0L;
+    private static int peakTracked = 0;
+    private static long lastOccupancyReportNanos = 0L;
 
-    public static void put(BlockPos pos, boolean opening, DoorHinge hinge, DoubleBlockHalf half, Direction facing) {
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            pool[i] = new Entry();
+            freeEntries.push(pool[i]);
+        }
+    }
+
+    /**
+     * Starts or reverses the animation for the door at {@code pos}.
+     *
+     * @return true if a fresh animation was started and the caller should rebuild the door's sections to hide it
+     */
+    public static boolean put(BlockPos pos, boolean opening, DoorHinge hinge, DoubleBlockHalf half, Direction facing) {
+        return put(pos, opening, hinge, half, facing, System.nanoTime());
+    }
+
+    /**
+     * Same as {@link #put(BlockPos, boolean, DoorHinge, DoubleBlockHalf, Direction)} but a fresh animation
+     * starts at {@code startNanos}, which may lie in the past to match a server-side start time.
+     */
+    public static boolean put(BlockPos pos, boolean opening, DoorHinge hinge, DoubleBlockHalf half, Direction facing, long startNanos) {
         long now = System.nanoTime();
-        Entry existing = entries.get(pos);
-        if (existing != null && existing.opening == opening && existing.hinge == hinge && existing.facing == facing && now - existing.startNanos < DEDUPE_WINDOW_NANOS) {
+        long key = pos.asLong();
+        synchronized (LOCK) {
+            Entry existing = entries.get(key);
+            if (existing != null && existing.opening == opening && existing.hinge == hinge && existing.facing == facing && now - existing.lastPutNanos < DEDUPE_WINDOW_NANOS) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("[FDA] dedupe {} at {} (duplicate trigger suppressed)", opening ? "OPEN" : "CLOSE", pos);
+                }
+                return false;
+            }
+            if (recordToggle(key, pos, opening, now)) {
+                // Storming door: flip instantly, the section rebuild from the state change itself shows the new state
+                release(existing);
+                return false;
+            }
+            if (!DoorVisibility.isDoorVisible(pos)) {
+                // Camera cannot see the door: flip instantly, no entry and no hide/reveal remesh
+                release(existing);
+                return false;
+            }
+            if (existing != null && existing.opening != opening && existing.hinge == hinge && existing.facing == facing && now < existing.hideUntilNanos) {
+                // Still mid-swing with the static mesh hidden: turn around from the current angle, no rebuild needed
+                float angle = DoorAnimMath.currentAngleDeg(facing, hinge, existing.opening, existing.startNanos, now, ANIM_DURATION_NANOS);
+                long start = DoorAnimMath.startNanosForAngle(opening, angle, now, ANIM_DURATION_NANOS);
+                existing.start(key, pos, opening, start, hinge, half, facing);
+                existing.lastPutNanos = now;
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("[FDA] reverse {} at {} from {}deg", opening ? "OPEN" : "CLOSE", pos, angle);
+                }
+                return false;
+            }
+            Entry e = existing != null ? existing : acquire(now);
+            e.start(key, pos, opening, startNanos, hinge, half, facing);
+            e.lastPutNanos = now;
+            e.active = true;
+            entries.put(key, e);
+            if (entries.size() > peakTracked) {
+                peakTracked = entries.size();
+            }
             if (LOG.isDebugEnabled()) {
-                LOG.debug("[FDA] dedupe {} at {} (duplicate trigger suppressed)", opening ? "OPEN" : "CLOSE", pos);
+                LOG.debug("[FDA] put {} at {} hinge={} half={} facing={} size={}", opening ? "OPEN" : "CLOSE", pos, hinge, half, facing, entries.size());
             }
+            return true;
+        }
+    }
+
+    private static Entry acquire(long now) {
+        Entry e = freeEntries.poll();
+        if (e != null) {
+            return e;
+        }
+        // Pool exhausted: evict the animation closest to finishing, it has the least swing left to lose
+        Entry oldest = null;
+        for (Entry it : pool) {
+            if (it.active && (oldest == null || it.startNanos < oldest.startNanos)) {
+                oldest = it;
+            }
+        }
+        entries.remove(oldest.key);
+        evictions++;
+        requestRerender(oldest.pos);
+        if (now - lastEvictionReportNanos > EVICTION_REPORT_NANOS) {
+            LOG.info("[FDA] animation pool full ({}/{}), evicted {} animations since last report", entries.size() + 1, CAPACITY, evictions - reportedEvictions);
+            reportedEvictions = evictions;
+            lastEvictionReportNanos = now;
+        }
+        return oldest;
+    }
+
+    private static void release(Entry e) {
+        if (e == null) {
             return;
         }
-        entries.put(pos, new Entry(opening, now, hinge, half, facing));
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("[FDA] put {} at {} hinge={} half={} facing={} size={}", opening ? "OPEN" : "CLOSE", pos, hinge, half, facing, entries.size());
+        entries.remove(e.key);
+        e.active = false;
+        freeEntries.push(e);
+    }
+
+    private static boolean recordToggle(long key, BlockPos pos, boolean opening, long now) {
+        ToggleRate r = rates.get(key);
+        if (r != null && r.toggles > 0 && r.lastOpening == opening && now - r.lastToggleNanos < DEDUPE_WINDOW_NANOS) {
+            // Repeat trigger of the toggle already counted (both network halves, then setBlockState).
+            // Hidden and storming doors have no entry to dedupe against, so this has to happen here
+            return r.storming;
+        }
+        if (r == null) {
+            r = freeRates.poll();
+            if (r == null) {
+                r = new ToggleRate();
+            }
+            r.reset(key, now);
+            rates.put(key, r);
+            activeRates.add(r);
+        }
+        if (now - r.windowStartNanos > STORM_WINDOW_NANOS) {
+            r.windowStartNanos = now;
+            r.toggles = 0;
         }
+        r.toggles++;
+        r.lastToggleNanos = now;
+        r.lastOpening = opening;
+        if (!r.storming && r.toggles > DoorAnimConfig.STORM_TOGGLES_PER_SECOND) {
+            r.storming = true;
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("[FDA] toggle storm at {} ({} toggles/s), animation suspended", pos, r.toggles);
+            }
+        }
+        return r.storming;
     }
 
     public static void pruneExpired() {
         long now = System.nanoTime();
-        Iterator<Map.Entry<BlockPos, Entry>> it = entries.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<BlockPos, Entry> e = it.next();
-            if (now - e.getValue().startNanos > ANIM_DURATION_NANOS) {
-                it.remove();
+        synchronized (LOCK) {
+            for (Entry e : pool) {
+                if (e.active && now - e.startNanos > ANIM_DURATION_NANOS) {
+                    release(e);
+                }
+            }
+            for (int i = activeRates.size() - 1; i >= 0; i--) {
+                ToggleRate r = activeRates.get(i);
+                if (now - r.lastToggleNanos > DoorAnimConfig.STORM_SETTLE_NANOS) {
+                    rates.remove(r.key);
+                    // Swap-remove, order does not matter
+                    activeRates.set(i, activeRates.get(activeRates.size() - 1));
+                    activeRates.remove(activeRates.size() - 1);
+                    freeRates.push(r);
+                }
+            }
+            // Sizing report at the info level once the pool runs high, so users can raise
+            // MAX_TRACKED_ANIMATIONS before it evicts; below that only debug logging reports it
+            if (peakTracked > 0 && now - lastOccupancyReportNanos > OCCUPANCY_REPORT_NANOS) {
+                if (peakTracked >= CAPACITY - CAPACITY / 4) {
+                    LOG.info("[FDA] animation pool running high: {}/{} now, peak {} in the last {}s, {} evictions total (-Dsmoothdoors.maxTrackedAnimations)", entries.size(), CAPACITY, peakTracked, OCCUPANCY_REPORT_NANOS / 1000000000L, evictions);
+                } else if (LOG.isDebugEnabled()) {
+                    LOG.debug("[FDA] animation pool occupancy: {}/{} now, peak {} since last report, {} evictions total", entries.size(), CAPACITY, peakTracked, evictions);
+                }
+                peakTracked = entries.size();
+                lastOccupancyReportNanos = now;
             }
         }
     }
 
     public static void clearAll() {
-        entries.clear();
+        synchronized (LOCK) {
+            for (Entry e : pool) {
+                if (e.active) {
+                    release(e);
+                }
+            }
+            freeRates.addAll(activeRates);
+            activeRates.clear();
+            rates.clear();
+        }
         if (LOG.isDebugEnabled()) {
             LOG.debug("[FDA] clearAll");
         }
     }
 
-    public static Float computeAngleDeg(BlockPos pos) {
-        Entry e = entries.get(pos);
-        if (e == null) {
-            return null;
-        }
+    /**
+     * Current angle of a snapshot entry, or NaN once its animation has finished and the entry was recycled.
+     */
+    public static float computeAngleDeg(Entry e) {
         long now = System.nanoTime();
         if (!e.revealScheduled && now >= e.hideUntilNanos) {
             e.revealScheduled = true;
-            requestRerender(pos);
+            requestRerender(e.pos);
         }
         if (now - e.startNanos >= ANIM_DURATION_NANOS) {
-            entries.remove(pos);
-            requestRerender(pos);
-            return null;
+            synchronized (LOCK) {
+                if (entries.get(e.key) == e) {
+                    release(e);
+                }
+            }
+            requestRerender(e.pos);
+            return Float.NaN;
         }
         return DoorAnimMath.currentAngleDeg(e.facing, e.hinge, e.opening, e.startNanos, now, ANIM_DURATION_NANOS);
     }
 
-    public static void forEachActive(BiConsumer<BlockPos, Entry> consumer) {
-        Map<BlockPos, Entry> snapshot = new HashMap<>(entries);
-        for (Map.Entry<BlockPos, Entry> it : snapshot.entrySet()) {
-            consumer.accept(it.getKey(), it.getValue());
+    /**
+     * Copies the active entries into a reused array readable through {@link #snapshotEntry(int)}.
+     * Client thread only; entries stay valid until the next put or prune.
+     *
+     * @return number of entries in the snapshot
+     */
+    public static int snapshotActive() {
+        synchronized (LOCK) {
+            int n = 0;
+            for (Entry e : pool) {
+                if (e.active) {
+                    snapshot[n++] = e;
+                }
+            }
+            return n;
         }
     }
 
+    public static Entry snapshotEntry(int i) {
+        return snapshot[i];
+    }
+
     public static boolean isDoorHiddenAt(BlockPos pos) {
         long now = System.nanoTime();
-        Entry e = entries.get(pos);
-        if (e != null && now < e.hideUntilNanos) {
-            return true;
+        synchronized (LOCK) {
+            Entry e = entries.get(pos.asLong());
+            if (e != null && now < e.hideUntilNanos) {
+                return true;
+            }
+            Entry lower = entries.get(BlockPos.asLong(pos.getX(), pos.getY() - 1, pos.getZ()));
+            return lower != null && now < lower.hideUntilNanos;
         }
-        Entry lower = entries.get(pos.down());
-        return lower != null && now < lower.hideUntilNanos;
     }
 
     public static boolean isAnimating(BlockPos pos) {
-        boolean result = entries.containsKey(pos) || entries.containsKey(pos.down());
+        boolean result;
+        int size;
+        synchronized (LOCK) {
+            result = entries.containsKey(pos.asLong()) || entries.containsKey(BlockPos.asLong(pos.getX(), pos.getY() - 1, pos.getZ()));
+            size = entries.size();
+        }
         if (result && LOG.isDebugEnabled()) {
-            LOG.debug("[FDA] isAnimating({}) = true, entries.size={}", pos, entries.size());
+            LOG.debug("[FDA] isAnimating({}) = true, entries.size={}", pos, size);
         }
         return result;
     }
@@ -107,8 +295,8 @@ public class DoorAnimationTracker {
         if (mc == null || mc.world == null || mc.worldRenderer == null) {
             return;
         }
-        forceRerenderPos(mc, pos);
-        forceRerenderPos(mc, pos.up());
+        forceRerenderPos(mc, rerenderPos.set(pos));
+        forceRerenderPos(mc, rerenderPos.move(Direction.UP));
     }
 
     private static void forceRerenderPos(MinecraftClient mc, BlockPos p) {
@@ -139,15 +327,25 @@ public class DoorAnimationTracker {
 
     @Environment(value=EnvType.CLIENT)
     public static final class Entry {
-        public final boolean opening;
-        public final long startNanos;
-        public final DoorHinge hinge;
-        public final DoubleBlockHalf half;
-        public final Direction facing;
-        public final long hideUntilNanos;
+        public final BlockPos.Mutable pos = new BlockPos.Mutable();
+        long key;
+        boolean active;
+        public boolean opening;
+        public long startNanos;
+        public DoorHinge hinge;
+        public DoubleBlockHalf half;
+        public Direction facing;
+        public long hideUntilNanos;
+        // When the entry was last started or reversed; startNanos may be back-dated, so dedupe uses this
+        long lastPutNanos;
         public boolean revealScheduled = false;
 
-        public Entry(boolean opening, long startNanos, DoorHinge hinge, DoubleBlockHalf half, Direction facing) {
+        Entry() {
+        }
+
+        void start(long key, BlockPos pos, boolean opening, long startNanos, DoorHinge hinge, DoubleBlockHalf half, Direction facing) {
+            this.key = key;
+            this.pos.set(pos);
             this.opening = opening;
             this.startNanos = startNanos;
             this.hinge = hinge;
@@ -156,6 +354,25 @@ public class DoorAnimationTracker {
             long end = startNanos + ANIM_DURATION_NANOS;
             long lead = Math.min(REVEAL_LEAD_NANOS, Math.max(0L, ANIM_DURATION_NANOS - 1000000L));
             this.hideUntilNanos = Math.max(startNanos, end - lead);
+            this.revealScheduled = false;
+        }
+    }
+
+    @Environment(value=EnvType.CLIENT)
+    private static final class ToggleRate {
+        long key;
+        long windowStartNanos;
+        long lastToggleNanos;
+        boolean lastOpening;
+        int toggles;
+        boolean storming;
+
+        void reset(long key, long now) {
+            this.key = key;
+            this.windowStartNanos = now;
+            this.lastToggleNanos = now;
+            this.toggles = 0;
+            this.storming = false;
         }
     }
 }
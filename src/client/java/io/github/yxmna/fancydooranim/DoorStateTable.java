@@ -0,0 +1,130 @@
+package io.github.derk.smoothdoors;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.DoorBlock;
+import net.minecraft.block.enums.DoorHinge;
+import net.minecraft.block.enums.DoubleBlockHalf;
+import net.minecraft.state.property.Properties;
+import net.minecraft.util.math.Direction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Door properties for every registered block state, packed into one int per raw state id.
+ * Non-door states are rejected with a class check; door states then need a single array read
+ * instead of several property lookups.
+ */
+@Environment(value=EnvType.CLIENT)
+public final class DoorStateTable {
+    private static final Logger LOG = LoggerFactory.getLogger("smooth-doors");
+    public static final int NOT_A_DOOR = 0;
+    private static final int DOOR_BIT = 1;
+    private static final int OPEN_BIT = 1 << 1;
+    private static final int UPPER_BIT = 1 << 2;
+    private static final int RIGHT_HINGE_BIT = 1 << 3;
+    private static final int FACING_SHIFT = 4;
+    private static final int FACING_MASK = 0x7;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int[] EMPTY = new int[0];
+    // Guards rebuilds, which can be triggered lazily from several model bake threads at once
+    private static final Object LOCK = new Object();
+    private static volatile int[] table = EMPTY;
+
+    private DoorStateTable() {
+    }
+
+    public static void rebuild() {
+        synchronized (LOCK) {
+            rebuildLocked();
+        }
+    }
+
+    /**
+     * Drops the table so the next lookup rebuilds it. Registry sync renumbers raw state ids when joining
+     * a server with a different block set and again on disconnect, which would leave every slot stale.
+     */
+    public static void invalidate() {
+        synchronized (LOCK) {
+            table = EMPTY;
+        }
+    }
+
+    private static void rebuildLocked() {
+        int size = Block.STATE_IDS.size();
+        int[] t = new int[size];
+        int doors = 0;
+        for (int id = 0; id < size; id++) {
+            BlockState s = Block.STATE_IDS.get(id);
+            t[id] = s != null ? compute(s) : NOT_A_DOOR;
+            if (t[id] != NOT_A_DOOR) {
+                doors++;
+            }
+        }
+        table = t;
+        LOG.info("[FDA] door state table built: {} states, {} door states", size, doors);
+    }
+
+    public static int descriptor(BlockState state) {
+        // Raw ids are a hash lookup, so settle the common non-door case with a class check first
+        if (!(state.getBlock() instanceof DoorBlock)) {
+            return NOT_A_DOOR;
+        }
+        int[] t = table;
+        if (t.length == 0) {
+            synchronized (LOCK) {
+                if (table.length == 0) {
+                    rebuildLocked();
+                }
+                t = table;
+            }
+        }
+        int id = Block.getRawIdFromState(state);
+        if (id >= 0 && id < t.length) {
+            return t[id];
+        }
+        // State registered after the table was built
+        return compute(state);
+    }
+
+    public static boolean isDoor(int d) {
+        return (d & DOOR_BIT) != 0;
+    }
+
+    public static boolean isOpen(int d) {
+        return (d & OPEN_BIT) != 0;
+    }
+
+    public static DoubleBlockHalf half(int d) {
+        return (d & UPPER_BIT) != 0 ? DoubleBlockHalf.UPPER : DoubleBlockHalf.LOWER;
+    }
+
+    public static DoorHinge hinge(int d) {
+        return (d & RIGHT_HINGE_BIT) != 0 ? DoorHinge.RIGHT : DoorHinge.LEFT;
+    }
+
+    public static Direction facing(int d) {
+        return DIRECTIONS[(d >>> FACING_SHIFT) & FACING_MASK];
+    }
+
+    private static int compute(BlockState state) {
+        if (!(state.getBlock() instanceof DoorBlock) || !state.contains(Properties.OPEN)) {
+            return NOT_A_DOOR;
+        }
+        int d = DOOR_BIT;
+        if (state.get(Properties.OPEN)) {
+            d |= OPEN_BIT;
+        }
+        if (state.contains(Properties.DOUBLE_BLOCK_HALF) && state.get(Properties.DOUBLE_BLOCK_HALF) == DoubleBlockHalf.UPPER) {
+            d |= UPPER_BIT;
+        }
+        if (state.contains(Properties.DOOR_HINGE) && state.get(Properties.DOOR_HINGE) == DoorHinge.RIGHT) {
+            d |= RIGHT_HINGE_BIT;
+        }
+        Direction facing = state.contains(Properties.HORIZONTAL_FACING) ? state.get(Properties.HORIZONTAL_FACING) : Direction.NORTH;
+        d |= facing.ordinal() << FACING_SHIFT;
+        return d;
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.derk.smoothdoors;
+
+import io.github.derk.smoothdoors.network.DoorTogglePayload;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.enums.DoubleBlockHalf;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.client.network.PlayerListEntry;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts animations from {@link DoorTogglePayload} batches sent by a server running the mod.
+ * Once any batch arrives, the packet-sniffing mixins stand down for the rest of the connection.
+ * The player's own door clicks still animate immediately from the client's predicted state change;
+ * the server's echo of such a toggle is skipped here.
+ */
+@Environment(value=EnvType.CLIENT)
+public final class DoorToggleReceiver {
+    private static final Logger LOG = LoggerFactory.getLogger("smooth-doors");
+    private static final long LOCAL_ECHO_NANOS = 2000000000L;
+    private static final int MAX_LOCAL_TOGGLES = 256;
+    private static volatile boolean serverDriven = false;
+    // Client thread only
+    private static boolean applyingServerUpdate = false;
+    // Lower-half position -> nanoTime of a locally predicted toggle, lowest bit holds the open state
+    private static final Long2LongOpenHashMap localToggles = new Long2LongOpenHashMap();
+    // Client thread only, reused for every toggled door
+    private static final BlockPos.Mutable togglePos = new BlockPos.Mutable();
+    private static final BlockPos.Mutable upperPos = new BlockPos.Mutable();
+
+    private DoorToggleReceiver() {
+    }
+
+    public static boolean isServerDriven() {
+        return serverDriven;
+    }
+
+    public static void reset() {
+        serverDriven = false;
+        applyingServerUpdate = false;
+        localToggles.clear();
+    }
+
+    public static void beginServerUpdate() {
+        applyingServerUpdate = true;
+    }
+
+    public static void endServerUpdate() {
+        applyingServerUpdate = false;
+    }
+
+    /**
+     * Whether a {@code ClientWorld.setBlockState} change should be left to the server's payload:
+     * true while a block update packet from a mod-enabled server is being applied.
+     */
+    public static boolean isServerUpdate() {
+        return serverDriven && applyingServerUpdate;
+    }
+
+    public static void recordLocalToggle(BlockPos pos, boolean opening) {
+        if (!serverDriven) {
+            return;
+        }
+        if (localToggles.size() >= MAX_LOCAL_TOGGLES) {
+            // Unanswered predictions (e.g. rejected by the server) are rare, dropping them all is fine
+            localToggles.clear();
+        }
+        localToggles.put(pos.asLong(), (System.nanoTime() & ~1L) | (opening ? 1L : 0L));
+    }
+
+    private static long oneWayLatencyNanos(MinecraftClient mc) {
+        ClientPlayNetworkHandler handler = mc.getNetworkHandler();
+        if (handler == null || mc.player == null) {
+            return 0L;
+        }
+        PlayerListEntry entry = handler.getPlayerListEntry(mc.player.getUuid());
+        if (entry == null) {
+            return 0L;
+        }
+        return Math.max(0L, entry.getLatency()) * 1000000L / 2L;
+    }
+
+    public static void onToggles(DoorTogglePayload payload, MinecraftClient mc) {
+        if (!serverDriven) {
+            serverDriven = true;
+            LOG.info("[FDA] server sends door toggles, packet sniffing disabled");
+        }
+        ClientWorld world = mc.world;
+        if (world == null || payload.positions().length == 0) {
+            return;
+        }
+        // The client's world clock trails the server by the same latency, so it can't measure transit.
+        // Back-date by half the measured round trip instead, bringing each viewer close to the server's phase.
+        long now = System.nanoTime();
+        long startNanos = now - oneWayLatencyNanos(mc);
+        if (now - startNanos >= DoorAnimationTracker.ANIM_DURATION_NANOS) {
+            // The swing would already be over, the chunk rebuild for the new state is all that's needed
+            return;
+        }
+        for (int i = 0; i < payload.positions().length; i++) {
+            BlockState state = Block.getStateFromRawId(payload.stateIds()[i]);
+            int door = DoorStateTable.descriptor(state);
+            if (!DoorStateTable.isDoor(door)) {
+                continue;
+            }
+            boolean isOpen = DoorStateTable.isOpen(door);
+            long local = localToggles.remove(payload.positions()[i]);
+            if (local != 0L && ((local & 1L) == 1L) == isOpen && now - (local & ~1L) < LOCAL_ECHO_NANOS) {
+                // Our own click, already animating from the predicted state change
+                continue;
+            }
+            BlockPos.Mutable pos = togglePos.set(payload.positions()[i]);
+            boolean started = DoorAnimationTracker.put(pos, isOpen, DoorStateTable.hinge(door), DoubleBlockHalf.LOWER, DoorStateTable.facing(door), startNanos);
+            if (started && mc.worldRenderer != null) {
+                BlockState s0 = world.getBlockState(pos);
+                mc.worldRenderer.updateBlock(null, pos, s0, s0, 0);
+                BlockPos.Mutable pu = upperPos.set(pos).move(Direction.UP);
+                BlockState s1 = world.getBlockState(pu);
+                mc.worldRenderer.updateBlock(null, pu, s1, s1, 0);
+            }
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package io.github.derk.smoothdoors;
 
 import io.github.derk.smoothdoors.model.DoorHidingModel;
+import io.github.derk.smoothdoors.network.DoorTogglePayload;
+import io.github.derk.smoothdoors.render.DoorGeometryCache;
+import io.github.derk.smoothdoors.render.DoorVisibility;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.model.loading.v1.ModelLoadingPlugin;
 import net.fabricmc.fabric.api.client.model.loading.v1.ModelModifier;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.event.registry.RegistryIdRemapCallback;
 import net.minecraft.block.DoorBlock;
+import net.minecraft.registry.Registries;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,28 +27,52 @@ public class FancyDoorAnimClient implements ClientModInitializer {
     public void onInitializeClient() {
         LOGGER.info("Smooth Doors client initializing...");
         
+        ClientLifecycleEvents.CLIENT_STARTED.register(client ->
+            DoorStateTable.rebuild()
+        );
+        
+        RegistryIdRemapCallback.event(Registries.BLOCK).register(state ->
+            DoorStateTable.invalidate()
+        );
+        
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
             if (client.world == null) {
                 return;
             }
             DoorAnimationTracker.pruneExpired();
+            // In case a packet handler threw before its RETURN injection cleared the flag
+            DoorToggleReceiver.endServerUpdate();
         });
         
-        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> 
-            DoorAnimationTracker.clearAll()
-        );
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
+            DoorAnimationTracker.clearAll();
+            // Registry sync may have renumbered block states for this server
+            DoorStateTable.invalidate();
+        });
+        
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            DoorAnimationTracker.clearAll();
+            DoorStateTable.invalidate();
+            DoorToggleReceiver.reset();
+            DoorVisibility.reset();
+            // Drop captured geometry and the baked models it references; the map is render-thread only
+            client.execute(DoorGeometryCache::clear);
+        });
         
-        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> 
-            DoorAnimationTracker.clearAll()
+        ClientPlayNetworking.registerGlobalReceiver(DoorTogglePayload.ID, (payload, context) ->
+            DoorToggleReceiver.onToggles(payload, context.client())
         );
         
-        ModelLoadingPlugin.register(ctx ->
+        // Plugins are re-initialized on every model reload. Door geometry for the overlay is extracted
+        // lazily, once per drawn state and bake, and dropped here so the next swing captures the new models.
+        ModelLoadingPlugin.register(ctx -> {
+            DoorGeometryCache.onModelReload();
             ctx.modifyBlockModelAfterBake().register(ModelModifier.WRAP_PHASE, (model, context) -> {
                 if (context.state().getBlock() instanceof DoorBlock) {
                     return new DoorHidingModel(model);
                 }
                 return model;
-            })
-        );
+            });
+        });
     }
 }
@@ -1,10 +1,10 @@
 package io.github.derk.smoothdoors.mixin;
 
 import io.github.derk.smoothdoors.DoorAnimationTracker;
+import io.github.derk.smoothdoors.DoorStateTable;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.block.BlockState;
-import net.minecraft.block.DoorBlock;
 import net.minecraft.client.render.VertexConsumer;
 import net.minecraft.client.render.block.BlockModelRenderer;
 import net.minecraft.client.util.math.MatrixStack;
@@ -49,7 +49,7 @@ public class BlockModelRendererMixin {
         }
         
         // Check if it's a door
-        if (state.getBlock() instanceof DoorBlock) {
+        if (DoorStateTable.isDoor(DoorStateTable.descriptor(state))) {
             boolean hidden = DoorAnimationTracker.isDoorHiddenAt(pos);
             FDA_LOG.info("[FDA][RENDER] Door at {} - hidden={}", pos, hidden);
             
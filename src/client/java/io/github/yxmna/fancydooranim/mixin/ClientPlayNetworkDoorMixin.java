@@ -2,9 +2,11 @@ package io.github.derk.smoothdoors.mixin;
 
 import io.github.derk.smoothdoors.DoorAnimMath;
 import io.github.derk.smoothdoors.DoorAnimationTracker;
+import io.github.derk.smoothdoors.DoorStateTable;
+import io.github.derk.smoothdoors.DoorToggleReceiver;
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
-import net.minecraft.block.DoorBlock;
 import net.minecraft.block.enums.DoorHinge;
 import net.minecraft.block.enums.DoubleBlockHalf;
 import net.minecraft.client.MinecraftClient;
@@ -12,7 +14,6 @@ import net.minecraft.client.network.ClientPlayNetworkHandler;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.network.packet.s2c.play.BlockUpdateS2CPacket;
 import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
-import net.minecraft.state.property.Properties;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.block.BlockState;
@@ -23,14 +24,17 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 @Environment(value=EnvType.CLIENT)
 @Mixin(value=ClientPlayNetworkHandler.class)
 public class ClientPlayNetworkDoorMixin {
     private static final Logger FDA_LOG = LoggerFactory.getLogger("smooth-doors");
-    private static final Map<BlockPos, Boolean> doorStateCache = new ConcurrentHashMap<>();
+    // Client thread only, keyed by BlockPos.asLong
+    private static final Long2BooleanOpenHashMap doorStateCache = new Long2BooleanOpenHashMap();
+    private static final BlockPos.Mutable basePos = new BlockPos.Mutable();
+    // Shared visitor for chunk delta packets so each packet doesn't allocate a capturing lambda
+    private static final BiConsumer<BlockPos, BlockState> DELTA_VISITOR = ClientPlayNetworkDoorMixin::handleDoorStateChange;
 
     @Inject(method="onBlockUpdate", at=@At("HEAD"))
     private void fancydooranim$onBlockUpdate(BlockUpdateS2CPacket packet, CallbackInfo ci) {
@@ -39,10 +43,12 @@ public class ClientPlayNetworkDoorMixin {
         if (world == null) {
             return;
         }
-        // Capture old state BEFORE packet is processed
-        BlockPos pos = packet.getPos();
-        BlockState oldState = world.getBlockState(pos);
-        handleDoorStateChange(world, pos, packet.getState(), oldState);
+        // The handler runs once on the network thread before being re-queued; only act on the client thread pass
+        if (!mc.isOnThread()) {
+            return;
+        }
+        DoorToggleReceiver.beginServerUpdate();
+        handleDoorStateChange(packet.getPos(), packet.getState());
     }
 
     @Inject(method="onChunkDeltaUpdate", at=@At("HEAD"))
@@ -52,68 +58,80 @@ public class ClientPlayNetworkDoorMixin {
         if (world == null) {
             return;
         }
-        packet.visitUpdates((pos, state) -> {
-            BlockState oldState = world.getBlockState(pos);
-            handleDoorStateChange(world, pos, state, oldState);
-        });
+        // The handler runs once on the network thread before being re-queued; only act on the client thread pass
+        if (!mc.isOnThread()) {
+            return;
+        }
+        DoorToggleReceiver.beginServerUpdate();
+        if (DoorToggleReceiver.isServerDriven()) {
+            return;
+        }
+        packet.visitUpdates(DELTA_VISITOR);
+    }
+
+    @Inject(method="onBlockUpdate", at=@At("RETURN"))
+    private void fancydooranim$afterBlockUpdate(BlockUpdateS2CPacket packet, CallbackInfo ci) {
+        DoorToggleReceiver.endServerUpdate();
     }
 
-    private static void handleDoorStateChange(final ClientWorld world, BlockPos pos, final BlockState newState, final BlockState oldState) {
-        if (!(newState.getBlock() instanceof DoorBlock)) {
+    @Inject(method="onChunkDeltaUpdate", at=@At("RETURN"))
+    private void fancydooranim$afterChunkDeltaUpdate(ChunkDeltaUpdateS2CPacket packet, CallbackInfo ci) {
+        DoorToggleReceiver.endServerUpdate();
+    }
+
+    // The previous open state comes from doorStateCache, so non-door entries cost one table read and no world lookup
+    private static void handleDoorStateChange(BlockPos pos, BlockState newState) {
+        if (DoorToggleReceiver.isServerDriven()) {
             return;
         }
-        
-        FDA_LOG.info("[FDA][NET] Detected door block update at {}", pos);
-        
-        if (!newState.contains(Properties.OPEN)) {
+        int door = DoorStateTable.descriptor(newState);
+        if (!DoorStateTable.isDoor(door)) {
             return;
         }
         
-        // Get cached old state, or false if not cached
-        Boolean cachedWasOpen = doorStateCache.get(pos);
-        boolean wasOpen = cachedWasOpen != null ? cachedWasOpen : false;
-        boolean isOpen = newState.get(Properties.OPEN);
+        // Previous open state from the cache, or false if not cached
+        long key = pos.asLong();
+        boolean wasOpen = doorStateCache.get(key);
+        boolean isOpen = DoorStateTable.isOpen(door);
         
         // Update cache with new state
-        doorStateCache.put(pos.toImmutable(), isOpen);
+        doorStateCache.put(key, isOpen);
         
-        FDA_LOG.info("[FDA][NET] Door at {} - wasOpen={}, isOpen={}", pos, wasOpen, isOpen);
+        if (FDA_LOG.isDebugEnabled()) {
+            FDA_LOG.debug("[FDA][NET] Door at {} - wasOpen={}, isOpen={}", pos, wasOpen, isOpen);
+        }
         
         if (wasOpen == isOpen) {
             return;
         }
         
-        DoubleBlockHalf half = newState.contains(Properties.DOUBLE_BLOCK_HALF) ? 
-            newState.get(Properties.DOUBLE_BLOCK_HALF) : DoubleBlockHalf.LOWER;
-        DoorHinge hinge = newState.contains(Properties.DOOR_HINGE) ? 
-            newState.get(Properties.DOOR_HINGE) : DoorHinge.LEFT;
-        Direction facing = newState.contains(Properties.HORIZONTAL_FACING) ? 
-            newState.get(Properties.HORIZONTAL_FACING) : Direction.NORTH;
+        DoubleBlockHalf half = DoorStateTable.half(door);
+        DoorHinge hinge = DoorStateTable.hinge(door);
+        Direction facing = DoorStateTable.facing(door);
         
-        final BlockPos basePos = half == DoubleBlockHalf.UPPER ? pos.down() : pos;
-        DoorAnimationTracker.put(basePos, isOpen, hinge, DoubleBlockHalf.LOWER, facing);
+        basePos.set(pos.getX(), half == DoubleBlockHalf.UPPER ? pos.getY() - 1 : pos.getY(), pos.getZ());
+        if (!DoorAnimationTracker.put(basePos, isOpen, hinge, DoubleBlockHalf.LOWER, facing)) {
+            // Deduplicated, reversed mid-swing or storming: no hide rebuild needed
+            return;
+        }
         
         final MinecraftClient mc = MinecraftClient.getInstance();
-        if (mc != null) {
-            mc.execute(() -> {
-                if (mc.worldRenderer == null) {
-                    return;
-                }
-                // Force chunk rebuilds to hide/show the door during animation
-                BlockPos upPos = basePos.up();
-                FDA_LOG.info("[FDA][NET] Scheduling chunk rebuilds for door at {} and {}", basePos, upPos);
-                
-                // Schedule rebuild for the chunk sections containing both door halves
-                int chunkX = basePos.getX() >> 4;
-                int chunkZ = basePos.getZ() >> 4;
-                int sectionY1 = basePos.getY() >> 4;
-                int sectionY2 = upPos.getY() >> 4;
-                
-                mc.worldRenderer.scheduleBlockRenders(chunkX, sectionY1, chunkZ, chunkX, sectionY1, chunkZ);
-                if (sectionY2 != sectionY1) {
-                    mc.worldRenderer.scheduleBlockRenders(chunkX, sectionY2, chunkZ, chunkX, sectionY2, chunkZ);
-                }
-            });
+        if (mc != null && mc.worldRenderer != null) {
+            // Force chunk rebuilds to hide/show the door during animation
+            if (FDA_LOG.isDebugEnabled()) {
+                FDA_LOG.debug("[FDA][NET] Scheduling chunk rebuilds for door at {}", basePos);
+            }
+            
+            // Schedule rebuild for the chunk sections containing both door halves
+            int chunkX = basePos.getX() >> 4;
+            int chunkZ = basePos.getZ() >> 4;
+            int sectionY1 = basePos.getY() >> 4;
+            int sectionY2 = (basePos.getY() + 1) >> 4;
+            
+            mc.worldRenderer.scheduleBlockRenders(chunkX, sectionY1, chunkZ, chunkX, sectionY1, chunkZ);
+            if (sectionY2 != sectionY1) {
+                mc.worldRenderer.scheduleBlockRenders(chunkX, sectionY2, chunkZ, chunkX, sectionY2, chunkZ);
+            }
         }
         
         if (FDA_LOG.isDebugEnabled()) {
@@ -1,6 +1,8 @@
 package io.github.derk.smoothdoors.mixin;
 
 import io.github.derk.smoothdoors.render.DoorAnimatedOverlay;
+import io.github.derk.smoothdoors.render.DoorVisibility;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.MinecraftClient;
@@ -8,11 +10,13 @@ import net.minecraft.client.render.Camera;
 import net.minecraft.client.render.BufferBuilderStorage;
 import net.minecraft.client.render.VertexConsumerProvider;
 import net.minecraft.client.render.WorldRenderer;
+import net.minecraft.client.render.chunk.ChunkBuilder;
 import net.minecraft.client.render.command.OrderedRenderCommandQueueImpl;
 import net.minecraft.client.render.state.WorldRenderState;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.util.math.Vec3d;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
@@ -27,6 +31,10 @@ public abstract class WorldRendererOverlayMixin {
     
     @Shadow
     private ClientWorld world;
+    
+    @Shadow
+    @Final
+    private ObjectArrayList<ChunkBuilder.BuiltChunk> builtChunks;
 
     @Inject(
         method="renderBlockEntities",
@@ -43,7 +51,9 @@ public abstract class WorldRendererOverlayMixin {
             return;
         }
         
-        MatrixStack matrices = new MatrixStack();
+        // Sections that survived frustum and occlusion culling this frame
+        DoorVisibility.update(this.builtChunks);
+        
         VertexConsumerProvider.Immediate consumers = this.bufferBuilders.getEntityVertexConsumers();
         
         // Get camera position from game renderer - this is the actual view position
@@ -54,6 +64,6 @@ public abstract class WorldRendererOverlayMixin {
             camPos = ((CameraAccessor) camera).getPos();
         }
         
-        DoorAnimatedOverlay.renderAll(this.world, matrices, camPos, consumers);
+        DoorAnimatedOverlay.renderAll(this.world, camPos, consumers);
     }
 }
@@ -1,13 +1,13 @@
 package io.github.derk.smoothdoors.model;
 
 import io.github.derk.smoothdoors.DoorAnimationTracker;
+import io.github.derk.smoothdoors.DoorStateTable;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.client.model.loading.v1.wrapper.WrapperBlockStateModel;
 import net.fabricmc.fabric.api.renderer.v1.mesh.QuadEmitter;
 import net.fabricmc.fabric.api.renderer.v1.model.FabricBlockStateModel;
 import net.minecraft.block.BlockState;
-import net.minecraft.block.DoorBlock;
 import net.minecraft.client.render.model.BlockStateModel;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
@@ -32,7 +32,7 @@ public final class DoorHidingModel extends WrapperBlockStateModel implements Fab
         Random random,
         Predicate<@Nullable Direction> cullTest
     ) {
-        if (!(state.getBlock() instanceof DoorBlock)) {
+        if (!DoorStateTable.isDoor(DoorStateTable.descriptor(state))) {
             super.emitQuads(emitter, blockView, pos, state, random, cullTest);
             return;
         }
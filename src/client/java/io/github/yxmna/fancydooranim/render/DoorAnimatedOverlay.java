@@ -2,37 +2,36 @@ package io.github.derk.smoothdoors.render;
 
 import io.github.derk.smoothdoors.DoorAnimMath;
 import io.github.derk.smoothdoors.DoorAnimationTracker;
+import io.github.derk.smoothdoors.DoorStateTable;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
-import net.minecraft.block.DoorBlock;
+import net.minecraft.block.enums.DoorHinge;
 import net.minecraft.block.enums.DoubleBlockHalf;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.render.OverlayTexture;
-import net.minecraft.client.render.RenderLayer;
-import net.minecraft.client.render.RenderLayers;
 import net.minecraft.client.render.VertexConsumer;
 import net.minecraft.client.render.VertexConsumerProvider;
 import net.minecraft.client.render.WorldRenderer;
 import net.minecraft.client.render.block.BlockRenderManager;
-import net.minecraft.client.render.block.BlockModels;
-import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.state.property.Properties;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
-import net.minecraft.util.math.RotationAxis;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.block.BlockState;
-import net.minecraft.world.BlockRenderView;
+
 
 @Environment(value=EnvType.CLIENT)
 public final class DoorAnimatedOverlay {
     private static final double EPS = 0.0005;
+    private static final BlockPos.Mutable upperPos = new BlockPos.Mutable();
+    // Reused for every door; render thread only
+    private static final DoorTransform transform = new DoorTransform();
 
     private DoorAnimatedOverlay() {
     }
 
-    public static void renderAll(ClientWorld world, MatrixStack ms, Vec3d cameraPos, VertexConsumerProvider consumers) {
+    public static void renderAll(ClientWorld world, Vec3d cameraPos, VertexConsumerProvider consumers) {
         MinecraftClient mc = MinecraftClient.getInstance();
         if (mc == null || world == null || consumers == null) {
             return;
@@ -40,15 +39,23 @@ public final class DoorAnimatedOverlay {
         
         BlockRenderManager brm = mc.getBlockRenderManager();
         
-        DoorAnimationTracker.forEachActive((pos, entry) -> {
-            Float angleDeg = DoorAnimationTracker.computeAngleDeg(pos);
-            if (angleDeg == null) {
-                return;
+        int active = DoorAnimationTracker.snapshotActive();
+        for (int a = 0; a < active; a++) {
+            DoorAnimationTracker.Entry entry = DoorAnimationTracker.snapshotEntry(a);
+            BlockPos pos = entry.pos;
+            float angleDeg = DoorAnimationTracker.computeAngleDeg(entry);
+            if (Float.isNaN(angleDeg)) {
+                continue;
+            }
+            
+            // Keep the swing's clock running but skip drawing while the door's sections are culled
+            if (!DoorVisibility.isDoorVisible(pos)) {
+                continue;
             }
             
             BlockState worldState = world.getBlockState(pos);
-            if (!(worldState.getBlock() instanceof DoorBlock)) {
-                return;
+            if (!DoorStateTable.isDoor(DoorStateTable.descriptor(worldState))) {
+                continue;
             }
             
             // Create closed door state with the correct hinge and facing
@@ -61,59 +68,68 @@ public final class DoorAnimatedOverlay {
             BlockState upperClosed = lowerClosed
                 .with(Properties.DOUBLE_BLOCK_HALF, DoubleBlockHalf.UPPER);
             
-            renderHalfRotated(world, brm, consumers, ms, cameraPos, pos, lowerClosed, angleDeg, entry);
-            renderHalfRotated(world, brm, consumers, ms, cameraPos, pos.up(), upperClosed, angleDeg, entry);
-        });
+            DoorGeometryCache.DoorGeometry lower = DoorGeometryCache.get(brm, lowerClosed);
+            DoorGeometryCache.DoorGeometry upper = DoorGeometryCache.get(brm, upperClosed);
+            transform.set(pos, cameraPos, angleDeg, entry.facing, entry.hinge);
+            emitHalf(consumers, lower, transform, 0.0f, WorldRenderer.getLightmapCoordinates(world, pos));
+            emitHalf(consumers, upper, transform, 1.0f, WorldRenderer.getLightmapCoordinates(world, upperPos.set(pos).move(Direction.UP)));
+        }
     }
 
-    private static void renderHalfRotated(
-        BlockRenderView world,
-        BlockRenderManager brm,
-        VertexConsumerProvider consumers,
-        MatrixStack ms,
-        Vec3d cam,
-        BlockPos pos,
-        BlockState stateClosed,
-        float angleDeg,
-        DoorAnimationTracker.Entry entry
-    ) {
-        ms.push();
-        
-        // Translate to block position relative to camera
-        double x = pos.getX() - cam.x;
-        double y = pos.getY() - cam.y;
-        double z = pos.getZ() - cam.z;
-        
-        // Small offset toward camera to prevent z-fighting
-        double dxCam = cam.x - (pos.getX() + 0.5);
-        double dzCam = cam.z - (pos.getZ() + 0.5);
-        double len = Math.sqrt(dxCam * dxCam + dzCam * dzCam);
-        double ex = len > 1.0E-6 ? dxCam / len * EPS : 0.0;
-        double ez = len > 1.0E-6 ? dzCam / len * EPS : 0.0;
-        
-        ms.translate(x + ex, y, z + ez);
-        
-        // Apply lateral inset based on rotation
-        DoorAnimMath.Inset inset = DoorAnimMath.lateralInsetTowardHinge(entry.facing, entry.hinge, angleDeg);
-        ms.translate(inset.dx, 0.0, inset.dz);
-        
-        // Rotate around hinge pivot
-        DoorAnimMath.Pivot p = DoorAnimMath.hingePivot(entry.facing, entry.hinge);
-        ms.translate(p.x, 0.0, p.z);
-        ms.multiply(RotationAxis.POSITIVE_Y.rotationDegrees(angleDeg));
-        ms.translate(-p.x, 0.0, -p.z);
-        
-        // Render the door block using BlockRenderManager
-        try {
-            int light = WorldRenderer.getLightmapCoordinates(world, pos);
-            int overlay = OverlayTexture.DEFAULT_UV;
-            
-            // Render using the block render manager
-            brm.renderBlockAsEntity(stateClosed, ms, consumers, light, overlay);
-        } catch (Exception e) {
-            // Silently ignore rendering errors
+    /**
+     * Writes the captured closed-door geometry rotated about the hinge. Positions and normals are
+     * rotated about Y by hand, which is what the matrix stack did per vertex when the model was
+     * re-rendered through renderBlockAsEntity every frame.
+     */
+    private static void emitHalf(VertexConsumerProvider consumers, DoorGeometryCache.DoorGeometry g, DoorTransform t, float dy, int light) {
+        float[] pos = g.positions;
+        float[] nrm = g.normals;
+        float[] uvs = g.uvs;
+        int[] colors = g.colors;
+        float c = t.cos;
+        float s = t.sin;
+        float ty = t.ty + dy;
+        for (int l = 0; l < g.layers.length; l++) {
+            VertexConsumer vc = consumers.getBuffer(g.layers[l]);
+            for (int v = g.layerStart[l]; v < g.layerStart[l + 1]; v++) {
+                int i = v * 3;
+                float lx = pos[i] - t.px;
+                float lz = pos[i + 2] - t.pz;
+                vc.vertex(t.tx + lx * c + lz * s, ty + pos[i + 1], t.tz - lx * s + lz * c,
+                    colors[v], uvs[v * 2], uvs[v * 2 + 1], OverlayTexture.DEFAULT_UV, light,
+                    nrm[i] * c + nrm[i + 2] * s, nrm[i + 1], -nrm[i] * s + nrm[i + 2] * c);
+            }
+        }
+    }
+
+    @Environment(value=EnvType.CLIENT)
+    private static final class DoorTransform {
+        float tx;
+        float ty;
+        float tz;
+        float px;
+        float pz;
+        float cos;
+        float sin;
+
+        void set(BlockPos pos, Vec3d cam, float angleDeg, Direction facing, DoorHinge hinge) {
+            // Small offset toward camera to prevent z-fighting
+            double dxCam = cam.x - (pos.getX() + 0.5);
+            double dzCam = cam.z - (pos.getZ() + 0.5);
+            double len = Math.sqrt(dxCam * dxCam + dzCam * dzCam);
+            double ex = len > 1.0E-6 ? dxCam / len * EPS : 0.0;
+            double ez = len > 1.0E-6 ? dzCam / len * EPS : 0.0;
+
+            // Apply lateral inset based on rotation, then rotate around the hinge pivot
+            DoorAnimMath.Pivot p = DoorAnimMath.hingePivot(facing, hinge);
+            px = p.x;
+            pz = p.z;
+            tx = (float) (pos.getX() - cam.x + ex) + DoorAnimMath.lateralInsetDx(facing, hinge, angleDeg) + p.x;
+            ty = (float) (pos.getY() - cam.y);
+            tz = (float) (pos.getZ() - cam.z + ez) + DoorAnimMath.lateralInsetDz(facing, hinge, angleDeg) + p.z;
+            double rad = Math.toRadians(angleDeg);
+            cos = (float) Math.cos(rad);
+            sin = (float) Math.sin(rad);
         }
-        
-        ms.pop();
     }
 }
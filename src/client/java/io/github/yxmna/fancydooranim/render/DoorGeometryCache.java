@@ -0,0 +1,200 @@
+package io.github.derk.smoothdoors.render;
+
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.OverlayTexture;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.render.block.BlockRenderManager;
+import net.minecraft.client.render.model.BlockStateModel;
+import net.minecraft.client.util.math.MatrixStack;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Closed-door geometry in block space, captured once per door state and baked model by running
+ * {@link BlockRenderManager#renderBlockAsEntity} into a recorder, so the overlay only has to rotate
+ * and re-emit the recorded vertices each frame instead of walking the model again. Render thread only.
+ */
+@Environment(value=EnvType.CLIENT)
+public final class DoorGeometryCache {
+    private static final Logger LOG = LoggerFactory.getLogger("smooth-doors");
+    private static final Map<BlockState, DoorGeometry> cache = new IdentityHashMap<>();
+
+    private DoorGeometryCache() {
+    }
+
+    public static DoorGeometry get(BlockRenderManager brm, BlockState closedState) {
+        BlockStateModel model = brm.getModel(closedState);
+        DoorGeometry g = cache.get(closedState);
+        if (g != null && g.model != model) {
+            // A bake replaced the models; every entry dates from the old one, so drop them all at once
+            cache.clear();
+            g = null;
+        }
+        if (g == null) {
+            g = capture(brm, closedState, model);
+            cache.put(closedState, g);
+        }
+        return g;
+    }
+
+    /**
+     * Called from the model loading plugin, which runs on a resource reload worker; the clear is handed
+     * to the client thread. Entries captured before the new models are installed are still caught by
+     * the model check in {@link #get}.
+     */
+    public static void onModelReload() {
+        MinecraftClient mc = MinecraftClient.getInstance();
+        if (mc != null) {
+            mc.execute(DoorGeometryCache::clear);
+        }
+    }
+
+    /** Drops all captured geometry, along with the baked models it keeps alive. */
+    public static void clear() {
+        cache.clear();
+    }
+
+    private static DoorGeometry capture(BlockRenderManager brm, BlockState state, BlockStateModel model) {
+        Recorder recorder = new Recorder();
+        try {
+            brm.renderBlockAsEntity(state, new MatrixStack(), recorder, 0, OverlayTexture.DEFAULT_UV);
+        } catch (Exception e) {
+            LOG.warn("[FDA] could not capture door geometry for {}: {}", state, e.toString());
+            recorder.layers.clear();
+        }
+        return recorder.build(model);
+    }
+
+    @Environment(value=EnvType.CLIENT)
+    public static final class DoorGeometry {
+        final BlockStateModel model;
+        public final RenderLayer[] layers;
+        /** Vertex offset of each layer, with the total vertex count as the last element. */
+        public final int[] layerStart;
+        public final float[] positions;
+        public final float[] normals;
+        public final float[] uvs;
+        public final int[] colors;
+
+        DoorGeometry(BlockStateModel model, RenderLayer[] layers, int[] layerStart, float[] positions, float[] normals, float[] uvs, int[] colors) {
+            this.model = model;
+            this.layers = layers;
+            this.layerStart = layerStart;
+            this.positions = positions;
+            this.normals = normals;
+            this.uvs = uvs;
+            this.colors = colors;
+        }
+    }
+
+    @Environment(value=EnvType.CLIENT)
+    private static final class Recorder implements VertexConsumerProvider {
+        final Map<RenderLayer, LayerRecorder> layers = new LinkedHashMap<>();
+
+        @Override
+        public VertexConsumer getBuffer(RenderLayer layer) {
+            return layers.computeIfAbsent(layer, l -> new LayerRecorder());
+        }
+
+        DoorGeometry build(BlockStateModel model) {
+            RenderLayer[] ls = layers.keySet().toArray(new RenderLayer[0]);
+            int[] start = new int[ls.length + 1];
+            FloatArrayList positions = new FloatArrayList();
+            FloatArrayList normals = new FloatArrayList();
+            FloatArrayList uvs = new FloatArrayList();
+            IntArrayList colors = new IntArrayList();
+            for (int i = 0; i < ls.length; i++) {
+                LayerRecorder r = layers.get(ls[i]);
+                start[i] = colors.size();
+                positions.addAll(r.positions);
+                normals.addAll(r.normals);
+                uvs.addAll(r.uvs);
+                colors.addAll(r.colors);
+            }
+            start[ls.length] = colors.size();
+            return new DoorGeometry(model, ls, start, positions.toFloatArray(), normals.toFloatArray(), uvs.toFloatArray(), colors.toIntArray());
+        }
+    }
+
+    /**
+     * Records vertices in the order the block renderer emits them. {@code vertex(x, y, z)} starts a
+     * vertex and the attribute calls that follow fill it in; overlay and light are supplied per door
+     * when the geometry is drawn.
+     */
+    @Environment(value=EnvType.CLIENT)
+    private static final class LayerRecorder implements VertexConsumer {
+        final FloatArrayList positions = new FloatArrayList();
+        final FloatArrayList normals = new FloatArrayList();
+        final FloatArrayList uvs = new FloatArrayList();
+        final IntArrayList colors = new IntArrayList();
+
+        @Override
+        public VertexConsumer vertex(float x, float y, float z) {
+            positions.add(x);
+            positions.add(y);
+            positions.add(z);
+            normals.add(0.0f);
+            normals.add(1.0f);
+            normals.add(0.0f);
+            uvs.add(0.0f);
+            uvs.add(0.0f);
+            colors.add(0xFFFFFFFF);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer color(int red, int green, int blue, int alpha) {
+            colors.set(colors.size() - 1, (alpha & 0xFF) << 24 | (red & 0xFF) << 16 | (green & 0xFF) << 8 | (blue & 0xFF));
+            return this;
+        }
+
+        @Override
+        public VertexConsumer color(int argb) {
+            colors.set(colors.size() - 1, argb);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer texture(float u, float v) {
+            int i = uvs.size() - 2;
+            uvs.set(i, u);
+            uvs.set(i + 1, v);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer overlay(int u, int v) {
+            return this;
+        }
+
+        @Override
+        public VertexConsumer light(int u, int v) {
+            return this;
+        }
+
+        @Override
+        public VertexConsumer normal(float x, float y, float z) {
+            int i = normals.size() - 3;
+            normals.set(i, x);
+            normals.set(i + 1, y);
+            normals.set(i + 2, z);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer lineWidth(float width) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.derk.smoothdoors.render;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.chunk.ChunkBuilder;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+
+import java.util.List;
+
+/**
+ * Sections the world renderer drew last frame, after frustum and occlusion culling.
+ * Doors outside these sections flip instantly instead of animating.
+ * Client thread only; lookups from any other thread report the door as visible.
+ */
+@Environment(value=EnvType.CLIENT)
+public final class DoorVisibility {
+    private static final LongOpenHashSet visible = new LongOpenHashSet();
+    // False until the first frame, so everything counts as visible before the renderer has run
+    private static boolean ready = false;
+
+    private DoorVisibility() {
+    }
+
+    public static void update(List<ChunkBuilder.BuiltChunk> builtChunks) {
+        visible.clear();
+        for (int i = 0; i < builtChunks.size(); i++) {
+            visible.add(ChunkSectionPos.toLong(builtChunks.get(i).getOrigin()));
+        }
+        ready = true;
+    }
+
+    public static void reset() {
+        ready = false;
+        visible.clear();
+    }
+
+    /**
+     * Whether either half of the door whose lower half is at {@code pos} lies in a visible section.
+     */
+    public static boolean isDoorVisible(BlockPos pos) {
+        if (!ready || !MinecraftClient.getInstance().isOnThread()) {
+            return true;
+        }
+        int sx = ChunkSectionPos.getSectionCoord(pos.getX());
+        int sz = ChunkSectionPos.getSectionCoord(pos.getZ());
+        return visible.contains(ChunkSectionPos.asLong(sx, ChunkSectionPos.getSectionCoord(pos.getY()), sz))
+            || visible.contains(ChunkSectionPos.asLong(sx, ChunkSectionPos.getSectionCoord(pos.getY() + 1), sz));
+    }
+}
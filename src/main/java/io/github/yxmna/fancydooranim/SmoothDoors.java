@@ -0,0 +1,32 @@
+package io.github.derk.smoothdoors;
+
+import io.github.derk.smoothdoors.network.DoorTogglePayload;
+import io.github.derk.smoothdoors.server.DoorToggleBroadcaster;
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SmoothDoors implements ModInitializer {
+    private static final Logger LOGGER = LoggerFactory.getLogger("smooth-doors");
+
+    @Override
+    public void onInitialize() {
+        LOGGER.info("Smooth Doors server sync initializing...");
+        
+        PayloadTypeRegistry.playS2C().register(DoorTogglePayload.ID, DoorTogglePayload.CODEC);
+        
+        ServerTickEvents.END_WORLD_TICK.register(DoorToggleBroadcaster::flush);
+        
+        ServerWorldEvents.UNLOAD.register((server, world) ->
+            DoorToggleBroadcaster.discard(world)
+        );
+        
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) ->
+            DoorToggleBroadcaster.sendHandshake(handler.player)
+        );
+    }
+}
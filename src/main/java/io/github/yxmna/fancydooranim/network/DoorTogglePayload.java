@@ -0,0 +1,42 @@
+package io.github.derk.smoothdoors.network;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * Doors toggled on the server during one world tick, sent to every player tracking them.
+ * Positions are {@code BlockPos.asLong} values of the lower halves, states are raw block state ids.
+ * An empty batch is sent on join so the client knows the server drives animations.
+ */
+public record DoorTogglePayload(long serverTick, long[] positions, int[] stateIds) implements CustomPayload {
+    public static final CustomPayload.Id<DoorTogglePayload> ID = new CustomPayload.Id<>(Identifier.of("smooth-doors", "door_toggle"));
+    public static final PacketCodec<PacketByteBuf, DoorTogglePayload> CODEC = CustomPayload.codecOf(DoorTogglePayload::write, DoorTogglePayload::read);
+
+    private static DoorTogglePayload read(PacketByteBuf buf) {
+        long serverTick = buf.readVarLong();
+        int count = buf.readVarInt();
+        long[] positions = new long[count];
+        int[] stateIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = buf.readLong();
+            stateIds[i] = buf.readVarInt();
+        }
+        return new DoorTogglePayload(serverTick, positions, stateIds);
+    }
+
+    private void write(PacketByteBuf buf) {
+        buf.writeVarLong(this.serverTick);
+        buf.writeVarInt(this.positions.length);
+        for (int i = 0; i < this.positions.length; i++) {
+            buf.writeLong(this.positions[i]);
+            buf.writeVarInt(this.stateIds[i]);
+        }
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
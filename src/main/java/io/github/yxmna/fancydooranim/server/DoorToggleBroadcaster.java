@@ -0,0 +1,92 @@
+package io.github.derk.smoothdoors.server;
+
+import io.github.derk.smoothdoors.network.DoorTogglePayload;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.DoorBlock;
+import net.minecraft.block.enums.DoubleBlockHalf;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.state.property.Properties;
+import net.minecraft.util.math.BlockPos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects door toggles per world during a tick and sends them as one {@link DoorTogglePayload}
+ * per tracking player at the end of the tick. Server thread only.
+ */
+public final class DoorToggleBroadcaster {
+    private static final Logger LOG = LoggerFactory.getLogger("smooth-doors");
+    private static final Map<ServerWorld, Long2IntLinkedOpenHashMap> pending = new HashMap<>();
+
+    private DoorToggleBroadcaster() {
+    }
+
+    public static void onStateChanged(ServerWorld world, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (!(newState.getBlock() instanceof DoorBlock) || !(oldState.getBlock() instanceof DoorBlock)) {
+            return;
+        }
+        if (!newState.contains(Properties.OPEN) || !oldState.contains(Properties.OPEN) || newState.get(Properties.OPEN) == oldState.get(Properties.OPEN)) {
+            return;
+        }
+        // The lower half always follows in the same tick, one entry per door is enough
+        if (newState.contains(Properties.DOUBLE_BLOCK_HALF) && newState.get(Properties.DOUBLE_BLOCK_HALF) == DoubleBlockHalf.UPPER) {
+            return;
+        }
+        pending.computeIfAbsent(world, w -> new Long2IntLinkedOpenHashMap()).put(pos.asLong(), Block.getRawIdFromState(newState));
+    }
+
+    public static void flush(ServerWorld world) {
+        Long2IntLinkedOpenHashMap toggles = pending.get(world);
+        if (toggles == null || toggles.isEmpty()) {
+            return;
+        }
+        Map<ServerPlayerEntity, Batch> batches = new HashMap<>();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (Long2IntMap.Entry e : toggles.long2IntEntrySet()) {
+            pos.set(e.getLongKey());
+            for (ServerPlayerEntity player : PlayerLookup.tracking(world, pos)) {
+                if (!ServerPlayNetworking.canSend(player, DoorTogglePayload.ID)) {
+                    continue;
+                }
+                Batch b = batches.computeIfAbsent(player, p -> new Batch());
+                b.positions.add(e.getLongKey());
+                b.stateIds.add(e.getIntValue());
+            }
+        }
+        toggles.clear();
+        long tick = world.getTime();
+        for (Map.Entry<ServerPlayerEntity, Batch> it : batches.entrySet()) {
+            Batch b = it.getValue();
+            ServerPlayNetworking.send(it.getKey(), new DoorTogglePayload(tick, b.positions.toLongArray(), b.stateIds.toIntArray()));
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("[FDA][SRV] sent door toggles to {} players at tick {}", batches.size(), tick);
+        }
+    }
+
+    public static void sendHandshake(ServerPlayerEntity player) {
+        if (ServerPlayNetworking.canSend(player, DoorTogglePayload.ID)) {
+            ServerPlayNetworking.send(player, new DoorTogglePayload(0L, new long[0], new int[0]));
+        }
+    }
+
+    public static void discard(ServerWorld world) {
+        pending.remove(world);
+    }
+
+    private static final class Batch {
+        final LongArrayList positions = new LongArrayList();
+        final IntArrayList stateIds = new IntArrayList();
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.derk.smoothdoors.server.mixin;
+
+import io.github.derk.smoothdoors.server.DoorToggleBroadcaster;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(value=ServerWorld.class)
+public class ServerWorldDoorSyncMixin {
+    // Required: the handshake tells clients to stop inferring animations, so this hook must be applied
+    @Inject(method="onBlockStateChanged", at=@At("TAIL"))
+    private void fancydooranim$onBlockStateChanged(BlockPos pos, BlockState oldBlock, BlockState newBlock, CallbackInfo ci) {
+        DoorToggleBroadcaster.onStateChanged((ServerWorld)(Object)this, pos, oldBlock, newBlock);
+    }
+}